@@ -2,8 +2,11 @@ package org.ars.example.reactor.controller;
 
 import lombok.AllArgsConstructor;
 import lombok.extern.log4j.Log4j2;
+import org.ars.example.reactor.diagnostics.Diagnostics;
 import org.ars.example.reactor.entity.Student;
 import org.ars.example.reactor.repository.StudentRepository;
+import org.ars.example.reactor.scheduler.FairRepositoryScheduler;
+import org.ars.example.reactor.scheduler.Workload;
 import org.springframework.core.env.Environment;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -21,17 +24,23 @@ import reactor.core.publisher.Mono;
 public class StudentController {
 
     private final StudentRepository studentRepository;
+    private final FairRepositoryScheduler repositoryScheduler;
+    private final Diagnostics diagnostics;
     private Environment env;
 
     @GetMapping(value = "getStudent/{id}")
     public Mono<ResponseEntity<Student>> getStudent(@PathVariable long id) {
-        var student = studentRepository.findById(id);
-        return Mono.just(student.map(ResponseEntity::ok).orElse(new ResponseEntity<>(HttpStatus.NOT_FOUND)));
+        return repositoryScheduler.submit(Workload.LOOKUP, () -> studentRepository.findById(id))
+                .transform(diagnostics.mono("getStudent.findById"))
+                .map(student -> student.map(ResponseEntity::ok).orElse(new ResponseEntity<>(HttpStatus.NOT_FOUND)));
     }
 
     @GetMapping(value = "getAllStudents")
     public Flux<Student> getAllStudents() {
         log.info("getAllStudents");
-        return Flux.fromIterable(studentRepository.findAll());
+        return repositoryScheduler.submit(Workload.SCAN, studentRepository::findAll)
+                .transform(diagnostics.mono("getAllStudents.findAll"))
+                .flatMapMany(Flux::fromIterable)
+                .transform(diagnostics.flux("getAllStudents.stream"));
     }
 }
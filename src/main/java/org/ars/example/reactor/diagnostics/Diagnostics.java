@@ -0,0 +1,69 @@
+package org.ars.example.reactor.diagnostics;
+
+import jakarta.annotation.PostConstruct;
+import lombok.AllArgsConstructor;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Hooks;
+import reactor.core.publisher.Mono;
+
+import java.util.function.Function;
+
+/**
+ * Applies the configured {@link DiagnosticsLevel} and traces named stages of a pipeline:
+ * <pre>
+ * repository.findById(id).transform(diagnostics.mono("getStudent.findById"))
+ * </pre>
+ * A stage gets a light checkpoint unless diagnostics are off, and its subscribe-to-terminate time
+ * is recorded when the request was sampled by {@link RequestIdFilter}. The time is recorded before the terminal signal
+ * goes downstream ({@code doFinally} would run after it), so it is in the trace when the request completes.
+ */
+@Log4j2
+@Component
+@AllArgsConstructor
+public class Diagnostics {
+
+    private final DiagnosticsProperties properties;
+
+    @PostConstruct
+    void init() {
+        setLevel(properties.getLevel());
+    }
+
+    public synchronized void setLevel(DiagnosticsLevel level) {
+        if (level == DiagnosticsLevel.FULL) {
+            Hooks.onOperatorDebug();
+        } else {
+            Hooks.resetOnOperatorDebug();
+        }
+        properties.setLevel(level);
+        log.info("diagnostics level: {}", level);
+    }
+
+    public <T> Function<Mono<T>, Mono<T>> mono(String stage) {
+        return mono -> {
+            var checkpointed = properties.getLevel() == DiagnosticsLevel.OFF ? mono : mono.checkpoint(stage);
+            return Mono.deferContextual(ctx -> ctx.<RequestTrace>getOrEmpty(RequestTrace.class)
+                    .map(trace -> {
+                        var start = System.nanoTime();
+                        Runnable record = () -> trace.record(stage, System.nanoTime() - start);
+                        return checkpointed.doOnTerminate(record).doOnCancel(record);
+                    })
+                    .orElse(checkpointed));
+        };
+    }
+
+    public <T> Function<Flux<T>, Flux<T>> flux(String stage) {
+        return flux -> {
+            var checkpointed = properties.getLevel() == DiagnosticsLevel.OFF ? flux : flux.checkpoint(stage);
+            return Flux.deferContextual(ctx -> ctx.<RequestTrace>getOrEmpty(RequestTrace.class)
+                    .map(trace -> {
+                        var start = System.nanoTime();
+                        Runnable record = () -> trace.record(stage, System.nanoTime() - start);
+                        return checkpointed.doOnTerminate(record).doOnCancel(record);
+                    })
+                    .orElse(checkpointed));
+        };
+    }
+}
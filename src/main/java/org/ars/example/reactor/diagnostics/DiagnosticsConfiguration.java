@@ -0,0 +1,27 @@
+package org.ars.example.reactor.diagnostics;
+
+import io.micrometer.context.ContextRegistry;
+import jakarta.annotation.PostConstruct;
+import org.apache.logging.log4j.ThreadContext;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Restores the request id of the Reactor Context into the Log4j2 {@link ThreadContext}.
+ * {@link ContextRegistry} is JVM-wide, so the accessor is registered once whatever the number of application contexts.
+ */
+@Configuration(proxyBeanMethods = false)
+public class DiagnosticsConfiguration {
+
+    private static final AtomicBoolean REGISTERED = new AtomicBoolean();
+
+    @PostConstruct
+    void registerRequestIdAccessor() {
+        if (!REGISTERED.compareAndSet(false, true)) return;
+        ContextRegistry.getInstance().registerThreadLocalAccessor(RequestIdFilter.REQUEST_ID_KEY,
+                () -> ThreadContext.get(RequestIdFilter.REQUEST_ID_KEY),
+                requestId -> ThreadContext.put(RequestIdFilter.REQUEST_ID_KEY, requestId),
+                () -> ThreadContext.remove(RequestIdFilter.REQUEST_ID_KEY));
+    }
+}
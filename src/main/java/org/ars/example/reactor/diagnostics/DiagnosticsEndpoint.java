@@ -0,0 +1,41 @@
+package org.ars.example.reactor.diagnostics;
+
+import lombok.AllArgsConstructor;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Reads and switches the diagnostics at runtime: {@code GET/POST /actuator/diagnostics}.
+ * A new level applies to the pipelines assembled afterwards.
+ */
+@Log4j2
+@Component
+@Endpoint(id = "diagnostics")
+@AllArgsConstructor
+public class DiagnosticsEndpoint {
+
+    private final DiagnosticsProperties properties;
+    private final Diagnostics diagnostics;
+
+    @ReadOperation
+    public DiagnosticsProperties diagnostics() {
+        return properties;
+    }
+
+    @WriteOperation
+    public DiagnosticsProperties update(@Nullable DiagnosticsLevel level, @Nullable Double sampleRate, @Nullable Long slowThresholdMillis) {
+        if (sampleRate != null && (sampleRate < 0 || sampleRate > 1)) throw new IllegalArgumentException("sampleRate must be between 0 and 1");
+        if (slowThresholdMillis != null && slowThresholdMillis < 0) throw new IllegalArgumentException("slowThresholdMillis must not be negative");
+        if (level != null) diagnostics.setLevel(level);
+        if (sampleRate != null) properties.setSampleRate(sampleRate);
+        if (slowThresholdMillis != null) properties.setSlowThreshold(Duration.ofMillis(slowThresholdMillis));
+        log.info("diagnostics updated: {}", properties);
+        return properties;
+    }
+}
@@ -0,0 +1,21 @@
+package org.ars.example.reactor.diagnostics;
+
+/**
+ * How much assembly information failing pipelines carry, from cheapest to most expensive.
+ * The debug agent is not a level: it instruments classes at startup, adds assembly information to every operator
+ * whatever the level, and is an opt-in with {@code spring.reactor.debug-agent.enabled=true}.
+ */
+public enum DiagnosticsLevel {
+    /**
+     * Plain stack traces.
+     */
+    OFF,
+    /**
+     * Light {@code checkpoint(description)} on every traced stage, no stack trace is captured.
+     */
+    CHECKPOINT,
+    /**
+     * {@code Hooks.onOperatorDebug()}: a stack trace captured at the assembly of every operator, not for production.
+     */
+    FULL
+}
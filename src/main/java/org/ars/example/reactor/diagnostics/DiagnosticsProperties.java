@@ -0,0 +1,27 @@
+package org.ars.example.reactor.diagnostics;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Diagnostics of the reactive pipelines, changed at runtime by {@link DiagnosticsEndpoint}.
+ */
+@Data
+@ConfigurationProperties(prefix = "reactor.diagnostics")
+public class DiagnosticsProperties {
+    private volatile DiagnosticsLevel level = DiagnosticsLevel.CHECKPOINT;
+    /**
+     * Header carrying the request id, a new id is generated when it is absent.
+     */
+    private volatile String requestIdHeader = "X-Request-Id";
+    /**
+     * Share of requests, from 0 to 1, whose stage timings are recorded.
+     */
+    private volatile double sampleRate = 0.01;
+    /**
+     * Sampled requests slower than this are logged with their stage timings.
+     */
+    private volatile Duration slowThreshold = Duration.ofMillis(500);
+}
@@ -0,0 +1,64 @@
+package org.ars.example.reactor.diagnostics;
+
+import lombok.extern.log4j.Log4j2;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.regex.Pattern;
+
+/**
+ * Puts the request id into the Reactor Context and echoes it in the response.
+ * With {@code spring.reactor.context-propagation=auto} and the accessor registered by {@link DiagnosticsConfiguration}
+ * the id is restored into the {@code ThreadContext} on every thread the pipeline runs on,
+ * so it shows up in the log lines as {@code %X{requestId}}.
+ * <p>
+ * A sampled share of the requests also gets a {@link RequestTrace}, logged when the request is slow.
+ */
+@Log4j2
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class RequestIdFilter implements WebFilter {
+
+    public static final String REQUEST_ID_KEY = "requestId";
+    /**
+     * Incoming ids are echoed and logged, anything else is replaced by a generated one.
+     */
+    private static final Pattern VALID_REQUEST_ID = Pattern.compile("[A-Za-z0-9._-]{1,64}");
+
+    private final DiagnosticsProperties properties;
+
+    public RequestIdFilter(DiagnosticsProperties properties) {
+        this.properties = properties;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        var request = exchange.getRequest();
+        var requestId = Optional.ofNullable(request.getHeaders().getFirst(properties.getRequestIdHeader()))
+                .filter(id -> VALID_REQUEST_ID.matcher(id).matches())
+                .orElseGet(() -> UUID.randomUUID().toString());
+        exchange.getResponse().getHeaders().set(properties.getRequestIdHeader(), requestId);
+
+        if (ThreadLocalRandom.current().nextDouble() >= properties.getSampleRate()) {
+            return chain.filter(exchange).contextWrite(ctx -> ctx.put(REQUEST_ID_KEY, requestId));
+        }
+        var trace = new RequestTrace();
+        return chain.filter(exchange)
+                .doFinally(signal -> {
+                    var elapsed = trace.elapsed();
+                    if (elapsed.compareTo(properties.getSlowThreshold()) > 0) {
+                        log.warn("slow request {} {} {}: {}ms, signal: {}, stages: {}", requestId, request.getMethod(),
+                                request.getPath(), elapsed.toMillis(), signal, trace.stages());
+                    }
+                })
+                .contextWrite(ctx -> ctx.put(REQUEST_ID_KEY, requestId).put(RequestTrace.class, trace));
+    }
+}
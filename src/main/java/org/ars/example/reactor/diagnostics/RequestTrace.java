@@ -0,0 +1,34 @@
+package org.ars.example.reactor.diagnostics;
+
+import java.time.Duration;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.stream.Collectors;
+
+/**
+ * Stage timings of a sampled request, kept in the Reactor Context under this class.
+ */
+public class RequestTrace {
+
+    private record Stage(String name, long nanos) {
+        @Override
+        public String toString() {
+            return name + "=" + Duration.ofNanos(nanos).toMillis() + "ms";
+        }
+    }
+
+    private final long start = System.nanoTime();
+    private final Queue<Stage> stages = new ConcurrentLinkedQueue<>();
+
+    void record(String stage, long nanos) {
+        stages.add(new Stage(stage, nanos));
+    }
+
+    Duration elapsed() {
+        return Duration.ofNanos(System.nanoTime() - start);
+    }
+
+    String stages() {
+        return stages.stream().map(Stage::toString).collect(Collectors.joining(", ", "[", "]"));
+    }
+}
@@ -0,0 +1,37 @@
+package org.ars.example.reactor.ratelimit;
+
+import lombok.AllArgsConstructor;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+/**
+ * Reads and changes the rate limits at runtime: {@code GET/POST /actuator/ratelimit}.
+ */
+@Log4j2
+@Component
+@Endpoint(id = "ratelimit")
+@AllArgsConstructor
+public class RateLimitEndpoint {
+
+    private final RateLimitProperties properties;
+
+    @ReadOperation
+    public RateLimitProperties limits() {
+        return properties;
+    }
+
+    @WriteOperation
+    public RateLimitProperties update(@Nullable Boolean enabled, @Nullable Long capacity, @Nullable Double refillPerSecond) {
+        if (capacity != null && capacity < 1) throw new IllegalArgumentException("capacity must be positive");
+        if (refillPerSecond != null && refillPerSecond < 0) throw new IllegalArgumentException("refillPerSecond must not be negative");
+        if (enabled != null) properties.setEnabled(enabled);
+        if (capacity != null) properties.setCapacity(capacity);
+        if (refillPerSecond != null) properties.setRefillPerSecond(refillPerSecond);
+        log.info("rate limit updated: {}", properties);
+        return properties;
+    }
+}
@@ -0,0 +1,70 @@
+package org.ars.example.reactor.ratelimit;
+
+import lombok.AllArgsConstructor;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rejects /students requests with 429 once the client's bucket is empty
+ * and puts the client id into the Reactor {@link reactor.util.context.Context} for the downstream pipeline.
+ */
+@Log4j2
+@Component
+@AllArgsConstructor
+public class RateLimitFilter implements WebFilter {
+
+    public static final String CLIENT_ID_KEY = "clientId";
+    public static final String ANONYMOUS = "anonymous";
+    private static final String PATH_PREFIX = "/students";
+
+    private final RateLimitProperties properties;
+    private final RateLimiter rateLimiter;
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        var request = exchange.getRequest();
+        if (!request.getPath().pathWithinApplication().value().startsWith(PATH_PREFIX)) {
+            return chain.filter(exchange);
+        }
+        var clientId = resolveClientId(request);
+        if (properties.isEnabled()) {
+            var waitNanos = rateLimiter.tryAcquire(clientId);
+            if (waitNanos > 0) {
+                log.debug("rate limit exceeded, client: {}", clientId);
+                var response = exchange.getResponse();
+                response.setStatusCode(HttpStatus.TOO_MANY_REQUESTS);
+                response.getHeaders().set(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds(waitNanos)));
+                return response.setComplete();
+            }
+        }
+        return chain.filter(exchange).contextWrite(ctx -> ctx.put(CLIENT_ID_KEY, clientId));
+    }
+
+    private String resolveClientId(ServerHttpRequest request) {
+        var remoteAddress = Optional.ofNullable(request.getRemoteAddress())
+                .map(InetSocketAddress::getAddress)
+                .map(InetAddress::getHostAddress);
+        return remoteAddress
+                .filter(properties.getTrustedProxies()::contains)
+                .map(proxy -> request.getHeaders().getFirst(properties.getClientHeader()))
+                .filter(id -> !id.isBlank())
+                .or(() -> remoteAddress)
+                .orElse(ANONYMOUS);
+    }
+
+    private static long retryAfterSeconds(long waitNanos) {
+        return Math.max(1L, (long) Math.ceil(waitNanos / (double) TimeUnit.SECONDS.toNanos(1)));
+    }
+}
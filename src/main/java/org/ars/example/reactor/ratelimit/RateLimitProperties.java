@@ -0,0 +1,39 @@
+package org.ars.example.reactor.ratelimit;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.List;
+
+/**
+ * Token-bucket limits applied per client to the /students API.
+ * The bean is mutable on purpose: {@link RateLimitEndpoint} changes the limits at runtime
+ * and every bucket picks up the new values on its next request.
+ */
+@Data
+@ConfigurationProperties(prefix = "reactor.rate-limit")
+public class RateLimitProperties {
+    private volatile boolean enabled = true;
+    /**
+     * Header identifying the client. It is set by the caller, so it is only honoured on requests coming from
+     * {@link #trustedProxies}, every other request is keyed on its remote address: otherwise a client could
+     * send a new value per request and get a fresh bucket and its own fair-scheduling share every time.
+     */
+    private volatile String clientHeader = "X-Client-Id";
+    /**
+     * Remote addresses (IP literals) allowed to name the client in {@link #clientHeader}, e.g. the gateway in front of the service.
+     */
+    private volatile List<String> trustedProxies = List.of();
+    /**
+     * Maximum burst size per client.
+     */
+    private volatile long capacity = 100;
+    /**
+     * Tokens added to every bucket per second.
+     */
+    private volatile double refillPerSecond = 50;
+    /**
+     * Number of buckets kept before full (idle) buckets are evicted.
+     */
+    private volatile int maxTrackedClients = 10_000;
+}
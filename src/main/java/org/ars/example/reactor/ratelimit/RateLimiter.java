@@ -0,0 +1,84 @@
+package org.ars.example.reactor.ratelimit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps one {@link TokenBucket} per client. {@link ConcurrentHashMap} gives striped, lock-free reads,
+ * so requests of different clients never contend with each other.
+ * <p>
+ * At most {@code maxTrackedClients} buckets are kept: idle buckets are swept at most once per second,
+ * and while the map is still full new clients share a single overflow bucket.
+ */
+@Log4j2
+@Component
+public class RateLimiter {
+
+    private static final long SWEEP_INTERVAL = TimeUnit.SECONDS.toNanos(1);
+
+    private final RateLimitProperties properties;
+    private final ConcurrentMap<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+    private final TokenBucket overflow;
+    private final AtomicLong lastSweep;
+    private final Counter allowed;
+    private final Counter rejected;
+    private final Counter overflowed;
+
+    public RateLimiter(RateLimitProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        var now = System.nanoTime();
+        this.overflow = new TokenBucket(properties.getCapacity(), now);
+        this.lastSweep = new AtomicLong(now - SWEEP_INTERVAL);
+        this.allowed = Counter.builder("students.ratelimit.requests").tag("outcome", "allowed").register(meterRegistry);
+        this.rejected = Counter.builder("students.ratelimit.requests").tag("outcome", "rejected").register(meterRegistry);
+        this.overflowed = Counter.builder("students.ratelimit.overflow").register(meterRegistry);
+        Gauge.builder("students.ratelimit.clients", buckets, ConcurrentMap::size).register(meterRegistry);
+        Gauge.builder("students.ratelimit.capacity", properties, RateLimitProperties::getCapacity).register(meterRegistry);
+        Gauge.builder("students.ratelimit.refill", properties, RateLimitProperties::getRefillPerSecond).register(meterRegistry);
+    }
+
+    /**
+     * @return 0 if the request is allowed, otherwise the nanos the client has to wait
+     */
+    public long tryAcquire(String clientId) {
+        var now = System.nanoTime();
+        var bucket = buckets.get(clientId);
+        if (bucket == null) {
+            bucket = newBucket(clientId, now);
+        }
+        var waitNanos = bucket.tryConsume(properties.getCapacity(), properties.getRefillPerSecond(), now);
+        (waitNanos == 0 ? allowed : rejected).increment();
+        return waitNanos;
+    }
+
+    private TokenBucket newBucket(String clientId, long now) {
+        if (buckets.size() >= properties.getMaxTrackedClients()) {
+            evictIdle(now);
+            if (buckets.size() >= properties.getMaxTrackedClients()) {
+                overflowed.increment();
+                return overflow;
+            }
+        }
+        return buckets.computeIfAbsent(clientId, id -> new TokenBucket(properties.getCapacity(), now));
+    }
+
+    /**
+     * A full bucket is indistinguishable from a new one, so it can be dropped without changing any limit.
+     */
+    private void evictIdle(long now) {
+        var last = lastSweep.get();
+        if (now - last < SWEEP_INTERVAL || !lastSweep.compareAndSet(last, now)) return;
+        var capacity = properties.getCapacity();
+        var refill = properties.getRefillPerSecond();
+        buckets.values().removeIf(bucket -> bucket.isFull(capacity, refill, now));
+        log.debug("evicted idle buckets, {} left", buckets.size());
+    }
+}
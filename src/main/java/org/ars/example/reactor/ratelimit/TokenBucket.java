@@ -0,0 +1,47 @@
+package org.ars.example.reactor.ratelimit;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Lock-free token bucket, the whole state is swapped with a single CAS.
+ * Capacity and refill rate are passed on every call so they can be changed at runtime.
+ */
+class TokenBucket {
+
+    private static final double NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private record State(double tokens, long timestamp) {}
+
+    private final AtomicReference<State> state;
+
+    TokenBucket(long capacity, long now) {
+        this.state = new AtomicReference<>(new State(capacity, now));
+    }
+
+    /**
+     * @return 0 if a token was taken, otherwise the nanos to wait until the next token is available
+     */
+    long tryConsume(long capacity, double refillPerSecond, long now) {
+        for (;;) {
+            var current = state.get();
+            var timestamp = Math.max(now, current.timestamp());
+            var tokens = refill(current, capacity, refillPerSecond, timestamp);
+            if (tokens < 1) {
+                return refillPerSecond > 0 ? (long) Math.ceil((1 - tokens) / refillPerSecond * NANOS_PER_SECOND) : Long.MAX_VALUE;
+            }
+            if (state.compareAndSet(current, new State(tokens - 1, timestamp))) {
+                return 0;
+            }
+        }
+    }
+
+    boolean isFull(long capacity, double refillPerSecond, long now) {
+        var current = state.get();
+        return refill(current, capacity, refillPerSecond, Math.max(now, current.timestamp())) >= capacity;
+    }
+
+    private static double refill(State state, long capacity, double refillPerSecond, long now) {
+        return Math.min(capacity, state.tokens() + (now - state.timestamp()) * refillPerSecond / NANOS_PER_SECOND);
+    }
+}
@@ -0,0 +1,199 @@
+package org.ars.example.reactor.scheduler;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.log4j.Log4j2;
+import org.ars.example.reactor.ratelimit.RateLimitFilter;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.Queue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs blocking repository calls off the event loop, sharing the workers between clients
+ * with deficit round robin: every round a client gets {@code quantum * weight} credit and may run calls
+ * while its credit covers their cost. A client scanning the whole table therefore cannot queue
+ * the cheap lookups of other clients behind its scans.
+ * <p>
+ * The client is taken from the Reactor Context written by {@link RateLimitFilter}.
+ */
+@Log4j2
+@Component
+public class FairRepositoryScheduler implements DisposableBean {
+
+    private final FairSchedulingProperties properties;
+    private final Scheduler workers;
+    /**
+     * Clients having queued work, a queue is removed as soon as it runs empty.
+     */
+    private final ConcurrentMap<String, ClientQueue> clients = new ConcurrentHashMap<>();
+    /**
+     * Round robin ring of clients having queued work, only the drain loop takes from it.
+     */
+    private final Queue<ClientQueue> active = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger wip = new AtomicInteger();
+    private final AtomicInteger queued = new AtomicInteger();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final Timer queueTimer;
+
+    @Autowired
+    public FairRepositoryScheduler(FairSchedulingProperties properties, MeterRegistry meterRegistry) {
+        this(properties, meterRegistry, Schedulers.newBoundedElastic(properties.getMaxConcurrency(), Integer.MAX_VALUE, "repository"));
+    }
+
+    public FairRepositoryScheduler(FairSchedulingProperties properties, MeterRegistry meterRegistry, Scheduler workers) {
+        this.properties = properties;
+        this.workers = workers;
+        this.queueTimer = Timer.builder("students.repository.queue.wait").register(meterRegistry);
+        Gauge.builder("students.repository.queued", queued, AtomicInteger::get).register(meterRegistry);
+        Gauge.builder("students.repository.inflight", inFlight, AtomicInteger::get).register(meterRegistry);
+        Gauge.builder("students.repository.clients", clients, ConcurrentMap::size).register(meterRegistry);
+    }
+
+    public <T> Mono<T> submit(Workload workload, Callable<T> call) {
+        return Mono.deferContextual(ctx -> Mono.<T>create(sink -> {
+            var clientId = ctx.getOrDefault(RateLimitFilter.CLIENT_ID_KEY, RateLimitFilter.ANONYMOUS);
+            var task = new Task<>(properties.costOf(workload), call, sink);
+            sink.onCancel(() -> task.cancelled = true);
+            enqueue(clients.computeIfAbsent(clientId, ClientQueue::new), task);
+        }));
+    }
+
+    private void enqueue(ClientQueue client, Task<?> task) {
+        queued.incrementAndGet();
+        client.tasks.offer(task);
+        if (client.active.compareAndSet(false, true)) {
+            active.offer(client);
+        }
+        drain();
+    }
+
+    private void drain() {
+        if (wip.getAndIncrement() != 0) return;
+        var missed = 1;
+        do {
+            while (inFlight.get() < properties.getMaxConcurrency()) {
+                var task = next();
+                if (task == null) break;
+                queued.decrementAndGet();
+                if (task.cancelled) continue;
+                inFlight.incrementAndGet();
+                workers.schedule(() -> run(task));
+            }
+            missed = wip.addAndGet(-missed);
+        } while (missed != 0);
+    }
+
+    /**
+     * Deficit round robin over {@link #active}, called from the drain loop only.
+     * When a full pass finds no client whose credit covers its next call, every client gets the credit of
+     * the rounds the closest one still needs in a single step, instead of looping one quantum at a time.
+     */
+    private Task<?> next() {
+        for (;;) {
+            for (int i = 0, size = active.size(); i < size; i++) {
+                var client = active.peek();
+                if (client == null) return null;
+                var head = client.tasks.peek();
+                if (head == null) {
+                    active.poll();
+                    client.deficit = 0;
+                    client.active.set(false);
+                    // idle clients are dropped, the key comes from a client-controlled header
+                    clients.remove(client.id, client);
+                    if (!client.tasks.isEmpty() && client.active.compareAndSet(false, true)) {
+                        active.offer(client);
+                    }
+                    continue;
+                }
+                if (client.deficit >= head.cost) {
+                    client.deficit -= head.cost;
+                    return client.tasks.poll();
+                }
+                active.offer(active.poll());
+            }
+            if (active.isEmpty()) return null;
+            addMissingRounds();
+        }
+    }
+
+    private void addMissingRounds() {
+        var rounds = Long.MAX_VALUE;
+        for (var client : active) {
+            var head = client.tasks.peek();
+            if (head != null) {
+                var credit = credit(client);
+                rounds = Math.min(rounds, (head.cost - client.deficit + credit - 1) / credit);
+            }
+        }
+        if (rounds == Long.MAX_VALUE) return;
+        for (var client : active) {
+            client.deficit += Math.max(1, rounds) * credit(client);
+        }
+    }
+
+    private long credit(ClientQueue client) {
+        return (long) properties.getQuantum() * properties.weightOf(client.id);
+    }
+
+    private <T> void run(Task<T> task) {
+        queueTimer.record(System.nanoTime() - task.submitted, TimeUnit.NANOSECONDS);
+        try {
+            var result = task.call.call();
+            if (result == null) {
+                task.sink.success();
+            } else {
+                task.sink.success(result);
+            }
+        } catch (Throwable e) {
+            log.debug("repository call failed", e);
+            task.sink.error(e);
+        } finally {
+            inFlight.decrementAndGet();
+            drain();
+        }
+    }
+
+    @Override
+    public void destroy() {
+        workers.dispose();
+    }
+
+    private static class ClientQueue {
+        final String id;
+        final Queue<Task<?>> tasks = new ConcurrentLinkedQueue<>();
+        final AtomicBoolean active = new AtomicBoolean();
+        long deficit;
+
+        ClientQueue(String id) {
+            this.id = id;
+        }
+    }
+
+    private static class Task<T> {
+        final int cost;
+        final Callable<T> call;
+        final MonoSink<T> sink;
+        final long submitted = System.nanoTime();
+        volatile boolean cancelled;
+
+        Task(int cost, Callable<T> call, MonoSink<T> sink) {
+            this.cost = cost;
+            this.call = call;
+            this.sink = sink;
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package org.ars.example.reactor.scheduler;
+
+import lombok.AllArgsConstructor;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+/**
+ * Reads and changes the fair scheduling at runtime: {@code GET/POST /actuator/fairscheduling}.
+ * A {@code client} with a {@code weight} sets that client's weight, a {@code workload} with a {@code cost} sets its cost.
+ */
+@Log4j2
+@Component
+@Endpoint(id = "fairscheduling")
+@AllArgsConstructor
+public class FairSchedulingEndpoint {
+
+    private final FairSchedulingProperties properties;
+
+    @ReadOperation
+    public FairSchedulingProperties scheduling() {
+        return properties;
+    }
+
+    @WriteOperation
+    public FairSchedulingProperties update(@Nullable Integer quantum, @Nullable Integer defaultWeight,
+                                           @Nullable String client, @Nullable Integer weight,
+                                           @Nullable Workload workload, @Nullable Integer cost) {
+        if ((client == null) != (weight == null)) throw new IllegalArgumentException("client and weight go together");
+        if ((workload == null) != (cost == null)) throw new IllegalArgumentException("workload and cost go together");
+        checkRange("quantum", quantum);
+        checkRange("defaultWeight", defaultWeight);
+        checkRange("weight", weight);
+        checkRange("cost", cost);
+        if (quantum != null) properties.setQuantum(quantum);
+        if (defaultWeight != null) properties.setDefaultWeight(defaultWeight);
+        if (client != null) properties.putWeight(client, weight);
+        if (workload != null) properties.putCost(workload, cost);
+        log.info("fair scheduling updated: {}", properties);
+        return properties;
+    }
+
+    /**
+     * Checks every value before anything is changed, so a rejected write leaves the settings untouched.
+     */
+    private static void checkRange(String name, @Nullable Integer value) {
+        if (value != null && (value < 1 || value > FairSchedulingProperties.MAX_VALUE)) {
+            throw new IllegalArgumentException(name + " must be between 1 and " + FairSchedulingProperties.MAX_VALUE);
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package org.ars.example.reactor.scheduler;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Weighted fair queuing of repository work between clients, see {@link FairRepositoryScheduler}.
+ * Quantum, weights and costs are read on every scheduling decision and changed at runtime by
+ * {@link FairSchedulingEndpoint}, {@link #maxConcurrency} is applied at startup only.
+ * Quantum, weights and costs are limited to 1..{@value #MAX_VALUE} so the drain loop stays cheap.
+ */
+@Data
+@ConfigurationProperties(prefix = "reactor.fair-scheduling")
+public class FairSchedulingProperties {
+
+    public static final int MAX_VALUE = 1000;
+
+    /**
+     * Repository calls running at the same time.
+     */
+    private int maxConcurrency = 8;
+    /**
+     * Credit a client with weight 1 gets every round.
+     */
+    private volatile int quantum = 1;
+    private volatile int defaultWeight = 1;
+    /**
+     * Per-client weights, clients not listed get {@link #defaultWeight}.
+     */
+    private volatile Map<String, Integer> weights = new ConcurrentHashMap<>();
+    /**
+     * Credit a single call of the given workload consumes.
+     */
+    private volatile Map<Workload, Integer> costs = new ConcurrentHashMap<>(Map.of(Workload.LOOKUP, 1, Workload.SCAN, 10));
+
+    public void setQuantum(int quantum) {
+        this.quantum = checkRange("quantum", quantum);
+    }
+
+    public void setDefaultWeight(int defaultWeight) {
+        this.defaultWeight = checkRange("defaultWeight", defaultWeight);
+    }
+
+    public void setWeights(Map<String, Integer> weights) {
+        weights.forEach((client, weight) -> checkRange("weight of " + client, weight));
+        this.weights = new ConcurrentHashMap<>(weights);
+    }
+
+    public void setCosts(Map<Workload, Integer> costs) {
+        costs.forEach((workload, cost) -> checkRange("cost of " + workload, cost));
+        var merged = new ConcurrentHashMap<>(this.costs);
+        merged.putAll(costs);
+        this.costs = merged;
+    }
+
+    public void putWeight(String client, int weight) {
+        weights.put(client, checkRange("weight of " + client, weight));
+    }
+
+    public void putCost(Workload workload, int cost) {
+        costs.put(workload, checkRange("cost of " + workload, cost));
+    }
+
+    int weightOf(String clientId) {
+        return weights.getOrDefault(clientId, defaultWeight);
+    }
+
+    int costOf(Workload workload) {
+        return costs.getOrDefault(workload, 1);
+    }
+
+    private static int checkRange(String name, Integer value) {
+        if (value == null || value < 1 || value > MAX_VALUE) {
+            throw new IllegalArgumentException(name + " must be between 1 and " + MAX_VALUE + ", was " + value);
+        }
+        return value;
+    }
+}
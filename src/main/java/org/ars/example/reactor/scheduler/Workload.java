@@ -0,0 +1,15 @@
+package org.ars.example.reactor.scheduler;
+
+/**
+ * Kind of repository work, its cost is configured in {@link FairSchedulingProperties#getCosts()}.
+ */
+public enum Workload {
+    /**
+     * Point lookup by primary key.
+     */
+    LOOKUP,
+    /**
+     * Full table scan.
+     */
+    SCAN
+}
@@ -0,0 +1,98 @@
+package org.ars.example.reactor;
+
+import org.ars.example.reactor.diagnostics.Diagnostics;
+import org.ars.example.reactor.diagnostics.DiagnosticsLevel;
+import org.ars.example.reactor.diagnostics.DiagnosticsProperties;
+import org.ars.example.reactor.diagnostics.RequestTrace;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.tools.agent.ReactorDebugAgent;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Overhead of every diagnostics level, with and without the debug agent, on a pipeline shaped like
+ * the StudentController ones, assembled and subscribed on every invocation as a request would do.
+ * The {@code sampled} variants also record a {@link RequestTrace}.
+ * <p>
+ * Not a test, run {@link #main(String[])} after {@code mvn test-compile}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DiagnosticsBenchmark {
+
+    @Param({"OFF", "CHECKPOINT", "FULL"})
+    DiagnosticsLevel level;
+    @Param({"false", "true"})
+    boolean agent;
+
+    private final List<Integer> rows = List.of(1, 2, 3);
+    private Diagnostics diagnostics;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        if (agent) {
+            ReactorDebugAgent.init();
+            ReactorDebugAgent.processExistingClasses();
+        }
+        diagnostics = new Diagnostics(new DiagnosticsProperties());
+        diagnostics.setLevel(level);
+    }
+
+    @Benchmark
+    public Integer lookup() {
+        return lookupPipeline().block();
+    }
+
+    @Benchmark
+    public Integer lookupSampled() {
+        return lookupPipeline().contextWrite(ctx -> ctx.put(RequestTrace.class, new RequestTrace())).block();
+    }
+
+    @Benchmark
+    public Integer scan() {
+        return scanPipeline().reduce(Integer::sum).block();
+    }
+
+    @Benchmark
+    public Integer scanSampled() {
+        return scanPipeline().reduce(Integer::sum).contextWrite(ctx -> ctx.put(RequestTrace.class, new RequestTrace())).block();
+    }
+
+    private Mono<Integer> lookupPipeline() {
+        return Mono.fromCallable(() -> rows.get(1))
+                .transform(diagnostics.mono("lookup"))
+                .map(i -> i + 1);
+    }
+
+    private Flux<Integer> scanPipeline() {
+        return Mono.fromCallable(() -> rows)
+                .transform(diagnostics.mono("scan.findAll"))
+                .flatMapMany(Flux::fromIterable)
+                .transform(diagnostics.flux("scan.stream"));
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(DiagnosticsBenchmark.class.getSimpleName()).build()).run();
+    }
+}
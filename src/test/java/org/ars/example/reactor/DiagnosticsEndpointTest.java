@@ -0,0 +1,95 @@
+package org.ars.example.reactor;
+
+import org.ars.example.reactor.diagnostics.Diagnostics;
+import org.ars.example.reactor.diagnostics.DiagnosticsLevel;
+import org.ars.example.reactor.entity.Student;
+import org.ars.example.reactor.repository.StudentRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.system.CapturedOutput;
+import org.springframework.boot.test.system.OutputCaptureExtension;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+@ExtendWith(OutputCaptureExtension.class)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "reactor.diagnostics.sample-rate=1",
+        "reactor.diagnostics.slow-threshold=0",
+        "management.endpoints.web.exposure.include=diagnostics"
+})
+public class DiagnosticsEndpointTest {
+
+    @Autowired
+    private WebTestClient webTestClient;
+    @Autowired
+    private StudentRepository studentRepository;
+    @Autowired
+    private Diagnostics diagnostics;
+
+    @BeforeEach
+    void init() {
+        studentRepository.saveAll(List.of(Student.builder().id(1L).name("John").age(23).build()));
+    }
+
+    @AfterEach
+    void reset() {
+        diagnostics.setLevel(DiagnosticsLevel.CHECKPOINT);
+    }
+
+    @Test
+    void requestIdReachesLogLines(CapturedOutput output) {
+        webTestClient
+                .get()
+                .uri("/students/getAllStudents")
+                .header("X-Request-Id", "log-line-request")
+                .exchange()
+                .expectStatus().isOk();
+        assertThat(output.getOut().lines())
+                .anySatisfy(line -> assertThat(line).contains("[log-line-request]").contains("StudentController").endsWith(": getAllStudents"));
+    }
+
+    @Test
+    void sampledSlowRequestIsLogged(CapturedOutput output) {
+        webTestClient
+                .get()
+                .uri("/students/getStudent/1")
+                .header("X-Request-Id", "slow-request")
+                .exchange()
+                .expectStatus().isOk();
+        // logged once the response is written, so possibly after the client got it
+        await().atMost(Duration.ofSeconds(5)).untilAsserted(() -> assertThat(output.getOut().lines())
+                .anySatisfy(line -> assertThat(line)
+                        .contains("slow request slow-request GET /students/getStudent/1")
+                        .contains("getStudent.findById=")));
+    }
+
+    @Test
+    void levelIsSwitchedAtRuntime() {
+        webTestClient
+                .post()
+                .uri("/actuator/diagnostics")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(Map.of("level", "FULL", "slowThresholdMillis", 250))
+                .exchange()
+                .expectStatus().isOk();
+        webTestClient
+                .get()
+                .uri("/actuator/diagnostics")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.level").isEqualTo("FULL")
+                .jsonPath("$.slowThreshold").isEqualTo("PT0.25S");
+    }
+}
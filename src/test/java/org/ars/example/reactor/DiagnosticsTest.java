@@ -0,0 +1,54 @@
+package org.ars.example.reactor;
+
+import org.ars.example.reactor.diagnostics.Diagnostics;
+import org.ars.example.reactor.diagnostics.DiagnosticsLevel;
+import org.ars.example.reactor.diagnostics.DiagnosticsProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class DiagnosticsTest {
+
+    private Diagnostics diagnostics;
+
+    @BeforeEach
+    void init() {
+        diagnostics = new Diagnostics(new DiagnosticsProperties());
+    }
+
+    @AfterEach
+    void reset() {
+        diagnostics.setLevel(DiagnosticsLevel.OFF);
+    }
+
+    @Test
+    void checkpointNamesFailedStage() {
+        diagnostics.setLevel(DiagnosticsLevel.CHECKPOINT);
+        StepVerifier.create(Mono.<Integer>error(new IllegalStateException("boom")).transform(diagnostics.mono("getStudent.findById")))
+                .expectErrorSatisfies(e -> assertThat(e.getSuppressed())
+                        .anySatisfy(suppressed -> assertThat(suppressed).hasMessageContaining("getStudent.findById")))
+                .verify();
+    }
+
+    @Test
+    void noCheckpointWhenOff() {
+        diagnostics.setLevel(DiagnosticsLevel.OFF);
+        StepVerifier.create(Mono.<Integer>error(new IllegalStateException("boom")).transform(diagnostics.mono("getStudent.findById")))
+                .expectErrorSatisfies(e -> assertThat(e.getSuppressed())
+                        .noneSatisfy(suppressed -> assertThat(suppressed).hasMessageContaining("getStudent.findById")))
+                .verify();
+    }
+
+    @Test
+    void fullRecordsAssemblyTrace() {
+        diagnostics.setLevel(DiagnosticsLevel.FULL);
+        StepVerifier.create(Mono.<Integer>error(new IllegalStateException("boom")).map(i -> i + 1))
+                .expectErrorSatisfies(e -> assertThat(e.getSuppressed())
+                        .anySatisfy(suppressed -> assertThat(suppressed).hasMessageContaining("Assembly trace from producer")))
+                .verify();
+    }
+}
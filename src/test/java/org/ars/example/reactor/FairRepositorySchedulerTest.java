@@ -0,0 +1,109 @@
+package org.ars.example.reactor;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.ars.example.reactor.ratelimit.RateLimitFilter;
+import org.ars.example.reactor.scheduler.FairRepositoryScheduler;
+import org.ars.example.reactor.scheduler.FairSchedulingProperties;
+import org.ars.example.reactor.scheduler.Workload;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.context.Context;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class FairRepositorySchedulerTest {
+
+    private final Queue<String> completed = new ConcurrentLinkedQueue<>();
+    private SimpleMeterRegistry meterRegistry;
+    private FairRepositoryScheduler scheduler;
+
+    @BeforeEach
+    void init() {
+        var properties = new FairSchedulingProperties();
+        properties.setMaxConcurrency(1);
+        meterRegistry = new SimpleMeterRegistry();
+        scheduler = new FairRepositoryScheduler(properties, meterRegistry);
+    }
+
+    @AfterEach
+    void destroy() {
+        scheduler.destroy();
+    }
+
+    @Test
+    void lookupIsNotQueuedBehindScans() throws Exception {
+        var started = new CountDownLatch(1);
+        var release = new CountDownLatch(1);
+        // occupies the only worker, so everything below is queued
+        submit("noisy", Workload.SCAN, () -> {
+            started.countDown();
+            release.await();
+            return "scan0";
+        }).subscribe();
+        started.await();
+
+        var all = Flux.merge(
+                submit("noisy", Workload.SCAN, () -> "scan1"),
+                submit("noisy", Workload.SCAN, () -> "scan2"),
+                submit("noisy", Workload.SCAN, () -> "scan3"),
+                submit("quiet", Workload.LOOKUP, () -> "lookup")
+        ).then().toFuture();
+        release.countDown();
+        all.get(5L, TimeUnit.SECONDS);
+
+        assertThat(List.copyOf(completed)).containsExactly("scan0", "lookup", "scan1", "scan2", "scan3");
+    }
+
+    @Test
+    void idleClientsAreDropped() {
+        // immediate workers run every call inside the drain loop, so the drop has happened when block() returns
+        var registry = new SimpleMeterRegistry();
+        var immediate = new FairRepositoryScheduler(new FairSchedulingProperties(), registry, Schedulers.immediate());
+        for (var i = 0; i < 100; i++) {
+            immediate.submit(Workload.LOOKUP, () -> "lookup")
+                    .contextWrite(Context.of(RateLimitFilter.CLIENT_ID_KEY, "client" + i))
+                    .block();
+        }
+        assertThat(registry.get("students.repository.clients").gauge().value()).isZero();
+    }
+
+    @Test
+    void largeCostsAreCreditedInOneStep() {
+        var properties = new FairSchedulingProperties();
+        properties.putCost(Workload.SCAN, FairSchedulingProperties.MAX_VALUE);
+        var immediate = new FairRepositoryScheduler(properties, new SimpleMeterRegistry(), Schedulers.immediate());
+        assertThat(immediate.submit(Workload.SCAN, () -> "scan").block()).isEqualTo("scan");
+    }
+
+    @Test
+    void rejectsOutOfRangeSettings() {
+        var properties = new FairSchedulingProperties();
+        assertThatThrownBy(() -> properties.setQuantum(Integer.MAX_VALUE)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> properties.putWeight("client", 0)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> properties.setCosts(Map.of(Workload.SCAN, Integer.MAX_VALUE))).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void emptyResult() {
+        assertThat(submit("client", Workload.LOOKUP, () -> null).blockOptional()).isEmpty();
+    }
+
+    private Mono<String> submit(String clientId, Workload workload, Callable<String> call) {
+        return scheduler.submit(workload, call)
+                .doOnNext(completed::add)
+                .contextWrite(Context.of(RateLimitFilter.CLIENT_ID_KEY, clientId));
+    }
+}
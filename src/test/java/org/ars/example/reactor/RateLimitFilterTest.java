@@ -0,0 +1,86 @@
+package org.ars.example.reactor;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.ars.example.reactor.ratelimit.RateLimitFilter;
+import org.ars.example.reactor.ratelimit.RateLimitProperties;
+import org.ars.example.reactor.ratelimit.RateLimiter;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Mono;
+
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "reactor.rate-limit.capacity=2",
+        "reactor.rate-limit.refill-per-second=0.001",
+        "reactor.rate-limit.trusted-proxies=127.0.0.1,0:0:0:0:0:0:0:1"
+})
+public class RateLimitFilterTest {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Test
+    void rejectsWhenBucketIsEmpty() {
+        getStudent("noisy").expectStatus().isOk();
+        getStudent("noisy").expectStatus().isOk();
+        getStudent("noisy")
+                .expectStatus().isEqualTo(HttpStatus.TOO_MANY_REQUESTS)
+                .expectHeader().value(HttpHeaders.RETRY_AFTER, retryAfter -> assertThat(Long.parseLong(retryAfter)).isPositive());
+        getStudent("quiet").expectStatus().isOk();
+    }
+
+    @Test
+    void fallsBackToRemoteAddress() {
+        getStudent(null).expectStatus().isOk();
+        getStudent(null).expectStatus().isOk();
+        getStudent(null).expectStatus().isEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+        getStudent("withHeader").expectStatus().isOk();
+    }
+
+    @Test
+    void limitsOnlyStudents() {
+        // served by the application itself: a limited request would get 429 instead of 404
+        for (var i = 0; i < 3; i++) {
+            webTestClient.get().uri("/unknown").header("X-Client-Id", "other")
+                    .exchange()
+                    .expectStatus().isNotFound();
+        }
+    }
+
+    @Test
+    void ignoresHeaderFromUntrustedAddress() {
+        var properties = new RateLimitProperties();
+        properties.setTrustedProxies(List.of("127.0.0.1"));
+        var filter = new RateLimitFilter(properties, new RateLimiter(properties, new SimpleMeterRegistry()));
+        var clientIds = new ArrayList<String>();
+
+        for (var clientId : List.of("first", "second")) {
+            var exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/students/getStudent/1")
+                    .remoteAddress(new InetSocketAddress("10.0.0.1", 40000))
+                    .header("X-Client-Id", clientId));
+            filter.filter(exchange, ex -> Mono.deferContextual(ctx -> {
+                clientIds.add(ctx.get(RateLimitFilter.CLIENT_ID_KEY));
+                return Mono.empty();
+            })).block();
+        }
+
+        assertThat(clientIds).containsExactly("10.0.0.1", "10.0.0.1");
+    }
+
+    private WebTestClient.ResponseSpec getStudent(String clientId) {
+        var request = webTestClient.get().uri("/students/getStudent/1");
+        if (clientId != null) request.header("X-Client-Id", clientId);
+        return request.exchange();
+    }
+}
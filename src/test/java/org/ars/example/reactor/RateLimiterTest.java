@@ -0,0 +1,70 @@
+package org.ars.example.reactor;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.ars.example.reactor.ratelimit.RateLimitProperties;
+import org.ars.example.reactor.ratelimit.RateLimiter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class RateLimiterTest {
+
+    private RateLimitProperties properties;
+    private SimpleMeterRegistry meterRegistry;
+    private RateLimiter rateLimiter;
+
+    @BeforeEach
+    void init() {
+        properties = new RateLimitProperties();
+        properties.setCapacity(3);
+        properties.setRefillPerSecond(0.001);
+        meterRegistry = new SimpleMeterRegistry();
+        rateLimiter = new RateLimiter(properties, meterRegistry);
+    }
+
+    @Test
+    void rejectsWhenBucketIsEmpty() {
+        for (var i = 0; i < 3; i++) {
+            assertThat(rateLimiter.tryAcquire("noisy")).isZero();
+        }
+        assertThat(rateLimiter.tryAcquire("noisy")).isPositive();
+        assertThat(rateLimiter.tryAcquire("quiet")).isZero();
+        assertThat(meterRegistry.get("students.ratelimit.requests").tag("outcome", "rejected").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("students.ratelimit.requests").tag("outcome", "allowed").counter().count()).isEqualTo(4);
+    }
+
+    @Test
+    void picksUpLimitsChangedAtRuntime() {
+        for (var i = 0; i < 3; i++) {
+            rateLimiter.tryAcquire("client");
+        }
+        assertThat(rateLimiter.tryAcquire("client")).isPositive();
+        properties.setRefillPerSecond(1_000_000);
+        assertThat(rateLimiter.tryAcquire("client")).isZero();
+    }
+
+    @Test
+    void evictsIdleBuckets() {
+        properties.setMaxTrackedClients(2);
+        properties.setRefillPerSecond(1_000_000);
+        rateLimiter.tryAcquire("a");
+        rateLimiter.tryAcquire("b");
+        rateLimiter.tryAcquire("c");
+        assertThat(meterRegistry.get("students.ratelimit.clients").gauge().value()).isEqualTo(1);
+    }
+
+    @Test
+    void newClientsShareOverflowBucketWhenFull() {
+        properties.setMaxTrackedClients(2);
+        rateLimiter.tryAcquire("a");
+        rateLimiter.tryAcquire("b");
+        for (var i = 0; i < 3; i++) {
+            assertThat(rateLimiter.tryAcquire("c")).isZero();
+        }
+        assertThat(rateLimiter.tryAcquire("d")).isPositive();
+        assertThat(rateLimiter.tryAcquire("a")).isZero();
+        assertThat(meterRegistry.get("students.ratelimit.clients").gauge().value()).isEqualTo(2);
+        assertThat(meterRegistry.get("students.ratelimit.overflow").counter().count()).isEqualTo(4);
+    }
+}
@@ -49,6 +49,28 @@ public class StudentControllerTest {
                 .expectBody(Student.class).value(student -> assertThat(student).isEqualTo(david));
     }
 
+    @Test
+    void requestIdIsEchoed() {
+        webTestClient
+                .get()
+                .uri("/students/getStudent/1")
+                .header("X-Request-Id", "test-request")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals("X-Request-Id", "test-request");
+    }
+
+    @Test
+    void invalidRequestIdIsReplaced() {
+        webTestClient
+                .get()
+                .uri("/students/getStudent/1")
+                .header("X-Request-Id", "forged\tlog line")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().value("X-Request-Id", requestId -> assertThat(requestId).isNotEqualTo("forged\tlog line").matches("[0-9a-f-]{36}"));
+    }
+
     @Test
     void getAllStudents() {
         webTestClient
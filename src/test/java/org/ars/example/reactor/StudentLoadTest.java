@@ -0,0 +1,82 @@
+package org.ars.example.reactor;
+
+import lombok.extern.log4j.Log4j2;
+import org.ars.example.reactor.load.LoadGenerator;
+import org.ars.example.reactor.load.LoadResult;
+import org.ars.example.reactor.load.LoadScenario;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * SLO regression suite, excluded from the default build: {@code mvn -Pload test}.
+ * Data volume, rates and SLOs are in application-load.yml and can be overridden with -D, e.g. {@code -Dload.students=100000}.
+ */
+@Log4j2
+@Tag("load")
+@ActiveProfiles("load")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+public class StudentLoadTest {
+
+    @LocalServerPort
+    private int port;
+    @Value("${load.students}")
+    private long students;
+    @Value("${load.max-connections}")
+    private int maxConnections;
+    @Value("${load.request-timeout}")
+    private Duration requestTimeout;
+    @Value("${load.warmup}")
+    private Duration warmup;
+    @Value("${load.duration}")
+    private Duration duration;
+    @Value("${load.slo-throughput}")
+    private double sloThroughput;
+
+    private LoadGenerator loadGenerator;
+
+    @BeforeEach
+    void init() {
+        loadGenerator = new LoadGenerator("http://localhost:" + port, maxConnections, requestTimeout);
+    }
+
+    @AfterEach
+    void close() {
+        loadGenerator.close();
+    }
+
+    @Test
+    void getStudent(@Value("${load.get-student.rate}") int rate,
+                    @Value("${load.get-student.slo-p99}") Duration sloP99,
+                    @Value("${load.get-student.slo-error-rate}") double sloErrorRate) throws Exception {
+        var result = loadGenerator.run(new LoadScenario("getStudent",
+                () -> "/students/getStudent/" + ThreadLocalRandom.current().nextLong(1, students + 1),
+                rate, warmup, duration));
+        assertSlo(result, sloP99, sloErrorRate);
+    }
+
+    @Test
+    void getAllStudents(@Value("${load.get-all-students.rate}") int rate,
+                        @Value("${load.get-all-students.slo-p99}") Duration sloP99,
+                        @Value("${load.get-all-students.slo-error-rate}") double sloErrorRate) throws Exception {
+        var result = loadGenerator.run(new LoadScenario("getAllStudents", () -> "/students/getAllStudents", rate, warmup, duration));
+        assertSlo(result, sloP99, sloErrorRate);
+    }
+
+    private void assertSlo(LoadResult result, Duration sloP99, double sloErrorRate) {
+        assertThat(result.percentile(99)).as("%s p99", result.scenario().name()).isLessThanOrEqualTo(sloP99);
+        assertThat(result.errorRate()).as("%s error rate", result.scenario().name()).isLessThanOrEqualTo(sloErrorRate);
+        assertThat(result.throughput()).as("%s throughput", result.scenario().name())
+                .isGreaterThanOrEqualTo(result.scenario().ratePerSecond() * sloThroughput);
+    }
+}
@@ -0,0 +1,139 @@
+package org.ars.example.reactor.load;
+
+import lombok.extern.log4j.Log4j2;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Sends the requests of a {@link LoadScenario} at a constant arrival rate with {@link WebClient}.
+ * <p>
+ * Every request has an intended send time on a fixed schedule. The sender never waits for responses,
+ * and when it falls behind it sends immediately but still measures from the intended time, so a stalled
+ * service shows up in the response time instead of silently lowering the load (coordinated omission).
+ * <p>
+ * Every request is cancelled after the request timeout and counted as an error, so no request outlives
+ * its scenario and the next scenario starts against an idle service.
+ */
+@Log4j2
+public class LoadGenerator implements AutoCloseable {
+
+    private static final Duration DRAIN_MARGIN = Duration.ofSeconds(5);
+
+    private static class Recording {
+        final Histogram responseTime;
+        final Histogram serviceTime;
+        final AtomicLong requests = new AtomicLong();
+        final AtomicLong errors = new AtomicLong();
+        final AtomicLong outstanding = new AtomicLong();
+        final AtomicLong lastCompleted = new AtomicLong(Long.MIN_VALUE);
+        volatile long firstIntended = Long.MIN_VALUE;
+
+        Recording() {
+            // auto-resizing, a sender falling behind can push response times past any fixed bound
+            this.responseTime = new ConcurrentHistogram(3);
+            this.serviceTime = new ConcurrentHistogram(3);
+        }
+    }
+
+    private final ConnectionProvider connectionProvider;
+    private final WebClient webClient;
+    private final Duration requestTimeout;
+
+    public LoadGenerator(String baseUrl, int maxConnections, Duration requestTimeout) {
+        this.requestTimeout = requestTimeout;
+        this.connectionProvider = ConnectionProvider.builder("load")
+                .maxConnections(maxConnections)
+                .pendingAcquireMaxCount(-1)
+                .build();
+        this.webClient = WebClient.builder()
+                .baseUrl(baseUrl)
+                .clientConnector(new ReactorClientHttpConnector(HttpClient.create(connectionProvider)))
+                .build();
+    }
+
+    public LoadResult run(LoadScenario scenario) throws InterruptedException, TimeoutException {
+        var recording = new Recording();
+
+        var interval = TimeUnit.SECONDS.toNanos(1) / scenario.ratePerSecond();
+        var start = System.nanoTime();
+        var measureFrom = start + scenario.warmup().toNanos();
+        var end = measureFrom + scenario.duration().toNanos();
+        log.info("{}: {} req/s, warmup {}, duration {}", scenario.name(), scenario.ratePerSecond(), scenario.warmup(), scenario.duration());
+
+        for (long i = 0, intended = start; intended < end; intended = start + ++i * interval) {
+            var delay = intended - System.nanoTime();
+            if (delay > 0) LockSupport.parkNanos(delay);
+            send(scenario.uri().get(), intended, intended >= measureFrom, recording);
+        }
+
+        var drainTimeout = requestTimeout.plus(DRAIN_MARGIN);
+        var deadline = System.nanoTime() + drainTimeout.toNanos();
+        while (recording.outstanding.get() > 0) {
+            if (System.nanoTime() > deadline) {
+                throw new TimeoutException(scenario.name() + ": " + recording.outstanding.get() + " requests still outstanding after " + drainTimeout);
+            }
+            Thread.sleep(10L);
+        }
+        var elapsed = recording.firstIntended == Long.MIN_VALUE ? Duration.ZERO : Duration.ofNanos(recording.lastCompleted.get() - recording.firstIntended);
+        var result = new LoadResult(scenario, recording.responseTime, recording.serviceTime,
+                recording.requests.get(), recording.errors.get(), elapsed);
+        log.info(result.summary());
+        return result;
+    }
+
+    private void send(String uri, long intended, boolean measured, Recording recording) {
+        var sent = System.nanoTime();
+        if (measured) {
+            // the schedule, not the actual send, so a sender still catching up on warmup cannot shorten the window
+            if (recording.firstIntended == Long.MIN_VALUE) recording.firstIntended = intended;
+            recording.requests.incrementAndGet();
+        }
+        recording.outstanding.incrementAndGet();
+        webClient.get()
+                .uri(uri)
+                .exchangeToMono(response -> response.releaseBody().thenReturn(response.statusCode().is2xxSuccessful()))
+                .timeout(requestTimeout)
+                .doOnError(e -> log.debug("request failed: {}", uri, e))
+                .onErrorResume(TimeoutException.class, e -> {
+                    if (measured) {
+                        recording.responseTime.recordValue(System.nanoTime() - intended);
+                        recordError(recording);
+                    }
+                    return Mono.empty();
+                })
+                .onErrorReturn(false)
+                .doFinally(signal -> recording.outstanding.decrementAndGet())
+                .subscribe(success -> {
+                    if (!measured) return;
+                    var now = System.nanoTime();
+                    if (success) {
+                        recording.responseTime.recordValue(now - intended);
+                        recording.serviceTime.recordValue(now - sent);
+                        recording.lastCompleted.accumulateAndGet(now, Math::max);
+                    } else {
+                        recordError(recording);
+                    }
+                });
+    }
+
+    private static void recordError(Recording recording) {
+        recording.errors.incrementAndGet();
+        recording.lastCompleted.accumulateAndGet(System.nanoTime(), Math::max);
+    }
+
+    @Override
+    public void close() {
+        connectionProvider.dispose();
+    }
+}
@@ -0,0 +1,45 @@
+package org.ars.example.reactor.load;
+
+import org.HdrHistogram.Histogram;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latencies of the measured part of a {@link LoadScenario}.
+ *
+ * @param responseTime latency from the intended send time, corrected for coordinated omission;
+ *                     timed out requests are recorded at the timeout
+ * @param serviceTime  latency of the successful requests from the actual send time, what a closed-model tool would report
+ * @param requests     requests sent in the measured part
+ * @param errors       failed, non-2xx and timed out requests
+ * @param elapsed      from the intended send of the first measured request to the last measured completion
+ */
+public record LoadResult(LoadScenario scenario, Histogram responseTime, Histogram serviceTime, long requests, long errors, Duration elapsed) {
+
+    /**
+     * Successful completions per second of wall time, drops below the target rate when the service cannot keep up.
+     */
+    public double throughput() {
+        return elapsed.isZero() ? 0 : (requests - errors) / (elapsed.toNanos() / (double) TimeUnit.SECONDS.toNanos(1));
+    }
+
+    public double errorRate() {
+        return requests == 0 ? 0 : errors / (double) requests;
+    }
+
+    public Duration percentile(double percentile) {
+        return Duration.ofNanos(responseTime.getValueAtPercentile(percentile));
+    }
+
+    public String summary() {
+        return String.format("%s: %d requests, %d errors, %.0f req/s (target %d) over %dms, response time p50=%.2fms p99=%.2fms p99.9=%.2fms max=%.2fms, service time p99=%.2fms",
+                scenario.name(), requests, errors, throughput(), scenario.ratePerSecond(), elapsed.toMillis(),
+                millis(responseTime, 50), millis(responseTime, 99), millis(responseTime, 99.9), responseTime.getMaxValue() / 1e6,
+                millis(serviceTime, 99));
+    }
+
+    private static double millis(Histogram histogram, double percentile) {
+        return histogram.getValueAtPercentile(percentile) / 1e6;
+    }
+}
@@ -0,0 +1,19 @@
+package org.ars.example.reactor.load;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+
+/**
+ * Open-model scenario: requests are sent at a constant arrival rate whatever the latency of the service.
+ *
+ * @param uri         produces the uri of every request
+ * @param ratePerSecond arrival rate
+ * @param warmup      requests sent during warmup are not recorded
+ * @param duration    measured part of the run
+ */
+public record LoadScenario(String name, Supplier<String> uri, int ratePerSecond, Duration warmup, Duration duration) {
+
+    public LoadScenario {
+        if (ratePerSecond < 1) throw new IllegalArgumentException("ratePerSecond must be positive");
+    }
+}